@@ -1,8 +1,10 @@
 package com.assignment;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
@@ -14,9 +16,15 @@ public class Assignment1Application {
         SpringApplication.run(Assignment1Application.class, args);
     }
 
-    // Add the RestTemplate bean definition
+    // Add the RestTemplate bean definition (used by the heartbeat monitor)
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(@Value("${heartbeat.timeout-ms:0}") int timeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        if (timeoutMs > 0) {
+            // A probe that takes longer than the timeout counts as a missed heartbeat
+            requestFactory.setConnectTimeout(timeoutMs);
+            requestFactory.setReadTimeout(timeoutMs);
+        }
+        return new RestTemplate(requestFactory);
     }
 }
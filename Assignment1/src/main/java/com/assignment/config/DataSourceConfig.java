@@ -0,0 +1,71 @@
+package com.assignment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Separate connection pools for writes (primary) and read-only transactions (replica), so read-heavy
+// health polling cannot take connections away from request ingest
+@Configuration
+public class DataSourceConfig {
+
+    // Configured with spring.datasource.* and spring.datasource.hikari.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // Configured with replica.datasource.* and replica.datasource.hikari.*; without a URL it opens a second,
+    // read-only pool on the primary database
+    @Bean
+    @ConfigurationProperties("replica.datasource.hikari")
+    public HikariDataSource replicaDataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Value("${replica.datasource.url:}") String url,
+            @Value("${replica.datasource.username:}") String username,
+            @Value("${replica.datasource.password:}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(primaryDataSource.getDriverClassName());
+        dataSource.setJdbcUrl(url.isEmpty() ? primaryDataSource.getJdbcUrl() : url);
+        dataSource.setUsername(username.isEmpty() ? primaryDataSource.getUsername() : username);
+        dataSource.setPassword(password.isEmpty() ? primaryDataSource.getPassword() : password);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+            @Value("${replica.datasource.max-staleness-ms:5000}") long maxStalenessMs) {
+        boolean sameDatabase = primaryDataSource.getJdbcUrl().equals(replicaDataSource.getJdbcUrl());
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, sameDatabase, maxStalenessMs);
+    }
+
+    // The DataSource used by JPA. The lazy proxy delays choosing a pool until the first statement, by which time
+    // the transaction's read-only flag is known.
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(replicaLagMonitor);
+        routingDataSource.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primaryDataSource,
+                ReadWriteRoutingDataSource.Route.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
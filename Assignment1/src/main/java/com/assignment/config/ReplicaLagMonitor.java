@@ -0,0 +1,82 @@
+package com.assignment.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+
+// Measures how far the replica is behind the primary with a heartbeat row. Every check writes the current time to
+// the row on the primary and reads the replicated row back from the replica, so the lag is known even when no
+// requests are being written. It overstates the lag by at most one check interval.
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String CREATE_HEARTBEAT =
+            "CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat TIMESTAMP(6) NOT NULL)";
+    private static final String UPDATE_HEARTBEAT = "UPDATE replica_heartbeat SET beat = ? WHERE id = 1";
+    private static final String INSERT_HEARTBEAT = "INSERT INTO replica_heartbeat (id, beat) VALUES (1, ?)";
+    private static final String READ_HEARTBEAT = "SELECT beat FROM replica_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final boolean sameDatabase;
+    private final long maxStalenessMs;
+
+    private volatile long lagMs;
+    private boolean heartbeatCreated;
+    private boolean checkFailing;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, boolean sameDatabase, long maxStalenessMs) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.sameDatabase = sameDatabase;
+        this.maxStalenessMs = maxStalenessMs;
+        // A separate replica is not trusted until its heartbeat has been read
+        this.lagMs = sameDatabase ? 0 : Long.MAX_VALUE;
+    }
+
+    @Scheduled(fixedRateString = "${replica.datasource.lag-check-interval-ms:1000}")
+    public synchronized void checkLag() {
+        if (sameDatabase) {
+            return; // A second pool on the primary database never lags
+        }
+
+        try {
+            writeHeartbeat();
+            // The replica has no heartbeat until the table and its first row have been replicated
+            Timestamp beat = replica.queryForObject(READ_HEARTBEAT, Timestamp.class);
+            lagMs = Math.max(0, System.currentTimeMillis() - beat.getTime());
+            checkFailing = false;
+        } catch (DataAccessException e) {
+            if (!checkFailing) {
+                logger.warn("Could not check replica lag, reading from the primary: {}", e.getMessage());
+            }
+            checkFailing = true;
+            lagMs = Long.MAX_VALUE;
+        }
+    }
+
+    private void writeHeartbeat() {
+        if (!heartbeatCreated) {
+            primary.execute(CREATE_HEARTBEAT);
+            heartbeatCreated = true;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        if (primary.update(UPDATE_HEARTBEAT, now) == 0) {
+            primary.update(INSERT_HEARTBEAT, now);
+        }
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    public boolean isReplicaFresh() {
+        return lagMs <= maxStalenessMs;
+    }
+}
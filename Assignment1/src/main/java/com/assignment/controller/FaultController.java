@@ -0,0 +1,37 @@
+package com.assignment.controller;
+
+import com.assignment.service.FaultInjector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/fault")
+public class FaultController {
+
+    @Autowired
+    private FaultInjector faultInjector;
+
+    @GetMapping
+    public ResponseEntity<FaultInjector.Fault> getFault() {
+        return ResponseEntity.ok(faultInjector.getFault());
+    }
+
+    // Inject a simulated fault into this instance (requires fault-injection.enabled=true)
+    @PostMapping
+    public ResponseEntity<String> injectFault(@RequestParam FaultInjector.Fault type,
+            @RequestParam(defaultValue = "0") long durationMs) {
+        if (!faultInjector.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Fault injection is disabled.");
+        }
+        faultInjector.inject(type, durationMs);
+        return ResponseEntity.ok("Injected fault " + type);
+    }
+
+    @DeleteMapping
+    public ResponseEntity<String> clearFault() {
+        faultInjector.clear();
+        return ResponseEntity.ok("Fault cleared.");
+    }
+}
@@ -2,7 +2,13 @@ package com.assignment.controller;
 
 import com.assignment.model.Health;
 import com.assignment.repository.HealthRepository;
+import com.assignment.service.FailoverTracker;
+import com.assignment.service.FaultInjector;
+import com.assignment.service.TraceService;
+import com.assignment.trace.HeartbeatProbeEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestTemplate;
@@ -10,8 +16,11 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/health")
+@Lazy(false) // Heartbeat monitor must run even with lazy initialization
 public class HealthController {
 
     private static final Logger logger = LoggerFactory.getLogger(HealthController.class);
@@ -22,11 +31,28 @@ public class HealthController {
     @Autowired
     private RestTemplate restTemplate; // Reuse RestTemplate from a Bean
 
+    @Autowired
+    private FailoverTracker failoverTracker;
+
+    @Autowired
+    private FaultInjector faultInjector;
+
+    @Autowired
+    private TraceService traceService;
+
+    @Value("${heartbeat.instance1-url:http://localhost:8080/health}")
+    private String instance1Url;
+
+    @Value("${heartbeat.instance2-url:http://localhost:8081/health}")
+    private String instance2Url;
+
     private boolean instance1Alive = true;
     private boolean instance2Alive = true;
 
     @GetMapping
     public ResponseEntity<Health> getHealthStatus() {
+        faultInjector.beforeRequest();
+
         Health health = healthRepository.findFirstByOrderByIdDesc();
 
         if (health != null) {
@@ -39,34 +65,63 @@ public class HealthController {
         return ResponseEntity.ok(health);
     }
 
-    // Scheduled method to check health of instances every 5 seconds
-    @Scheduled(fixedRate = 5000) // Every 5 seconds
+    // Up/down transitions seen by the heartbeat monitor, used to measure detection and recovery time
+    @GetMapping("/failover-events")
+    public ResponseEntity<List<FailoverTracker.FailoverEvent>> getFailoverEvents() {
+        return ResponseEntity.ok(failoverTracker.getEvents());
+    }
+
+    // Scheduled method to check health of instances (every 5 seconds by default)
+    @Scheduled(fixedRateString = "${heartbeat.interval-ms:5000}")
     public void monitorInstances() {
-        checkInstanceHealth("http://localhost:8080/health", "Instance 1");
-        checkInstanceHealth("http://localhost:8081/health", "Instance 2");
+        checkInstanceHealth(instance1Url, "Instance 1");
+        checkInstanceHealth(instance2Url, "Instance 2");
     }
 
     private void checkInstanceHealth(String url, String instanceName) {
+        HeartbeatProbeEvent event = new HeartbeatProbeEvent();
+        event.begin();
+        event.instanceName = instanceName;
+        event.url = url;
+
         try {
             ResponseEntity<Health> response = restTemplate.getForEntity(url, Health.class);
+            event.end(); // Time only the probe, not the handling below
+            event.alive = response.getStatusCode().is2xxSuccessful();
             if (response.getStatusCode().is2xxSuccessful()) {
                 if ("Instance 1".equals(instanceName)) {
+                    if (!instance1Alive) {
+                        failoverTracker.recordUp(instanceName, url);
+                    }
                     instance1Alive = true;
                 } else if ("Instance 2".equals(instanceName)) {
+                    if (!instance2Alive) {
+                        failoverTracker.recordUp(instanceName, url);
+                    }
                     instance2Alive = true;
                 }
             }
         } catch (Exception e) {
+            event.end();
+            event.error = e.getMessage();
             logger.error("{} is down: {}", instanceName, e.getMessage());
             if ("Instance 1".equals(instanceName)) {
+                if (instance1Alive) {
+                    failoverTracker.recordDown(instanceName, url);
+                }
                 instance1Alive = false;
                 // Handle fault recovery for Instance 1 here
                 handleFaultRecovery("Instance 1", 8081);
             } else if ("Instance 2".equals(instanceName)) {
+                if (instance2Alive) {
+                    failoverTracker.recordDown(instanceName, url);
+                }
                 instance2Alive = false;
                 // Handle fault recovery for Instance 2 here
                 handleFaultRecovery("Instance 2", 8082);
             }
+        } finally {
+            traceService.commit(event);
         }
     }
 
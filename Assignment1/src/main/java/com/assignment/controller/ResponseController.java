@@ -1,26 +1,43 @@
 package com.assignment.controller;
 
 import com.assignment.model.Response;
+import com.assignment.service.FaultInjector;
 import com.assignment.service.ResponseService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.regex.Pattern;
+
 @RestController
 @RequestMapping("/response")
 public class ResponseController {
 
+    // Request IDs are stored in a 64 character column
+    private static final Pattern REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
     @Autowired
     private ResponseService responseService;
 
-    // POST endpoint for creating random responses
+    @Autowired
+    private FaultInjector faultInjector;
+
+    // POST endpoint for creating random responses. A client that retries on another instance can send
+    // X-Request-Id, which is stored with the response so the retry can be recognised as the same request.
     @PostMapping
-    public ResponseEntity<Response> createResponse() {
+    public ResponseEntity<Response> createResponse(
+            @RequestHeader(value = "X-Request-Id", required = false) String requestId) {
+        faultInjector.beforeRequest();
+        if (!isValidRequestId(requestId)) {
+            return ResponseEntity.badRequest().build();
+        }
+
         // Generate random data using the service's method
         String randomData = responseService.generateRandomString();
 
         // Call saveRandomResponse with the random data
-        Response response = responseService.saveRandomResponse(randomData);
+        Response response = responseService.saveRandomResponse(randomData, requestId);
 
         return ResponseEntity.ok(response);
     }
@@ -28,6 +45,8 @@ public class ResponseController {
     // GET endpoint to handle health checks or status queries
     @GetMapping
     public ResponseEntity<String> checkResponseStatus() {
+        faultInjector.beforeRequest();
+
         // You can add any custom logic here if needed, for now, it's just a simple
         // check
         return ResponseEntity.ok("Response service is alive");
@@ -35,8 +54,17 @@ public class ResponseController {
 
     // Endpoint to receive synchronization data from replica
     @PostMapping("/replica-sync")
-    public ResponseEntity<String> syncFromReplica(@RequestBody String data) {
-        responseService.processReplicaData(data);
+    public ResponseEntity<String> syncFromReplica(@RequestBody String data,
+            @RequestHeader(value = "X-Request-Id", required = false) String requestId) {
+        faultInjector.beforeRequest();
+        if (faultInjector.dropsReplicaSync()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Replica sync dropped.");
+        }
+        if (!isValidRequestId(requestId)) {
+            return ResponseEntity.badRequest().body("Invalid X-Request-Id.");
+        }
+
+        responseService.processReplicaData(data, requestId);
         return ResponseEntity.ok("Data synchronized from replica.");
     }
 
@@ -46,4 +74,8 @@ public class ResponseController {
         int randomNumber = responseService.getRandomNumber();
         return ResponseEntity.ok(randomNumber);
     }
+
+    private boolean isValidRequestId(String requestId) {
+        return requestId == null || REQUEST_ID.matcher(requestId).matches();
+    }
 }
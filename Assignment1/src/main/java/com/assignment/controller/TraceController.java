@@ -0,0 +1,22 @@
+package com.assignment.controller;
+
+import com.assignment.service.TraceService;
+import com.assignment.trace.TraceWindow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/trace")
+public class TraceController {
+
+    @Autowired
+    private TraceService traceService;
+
+    // Dump the request and failover events of the last N seconds, with a flag telling whether the buffer could
+    // not hold all of them
+    @GetMapping
+    public ResponseEntity<TraceWindow> getTrace(@RequestParam(defaultValue = "60") long seconds) {
+        return ResponseEntity.ok(traceService.getEvents(seconds));
+    }
+}
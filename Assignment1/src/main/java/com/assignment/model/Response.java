@@ -21,6 +21,10 @@ public class Response {
 
     private LocalDateTime timestamp;
 
+    // X-Request-Id sent by the client, so a request retried on the other instance can be matched
+    @Column(name = "request_id", length = 64)
+    private String requestId;
+
     @ManyToOne
     @JoinColumn(name = "health_id", nullable = false)
     @JsonIgnore
@@ -2,7 +2,10 @@ package com.assignment.repository;
 
 import com.assignment.model.Client;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface ClientRepository extends JpaRepository<Client, Long> {
+    // Read-only, so it is served from the replica pool
+    @Transactional(readOnly = true)
     Client findFirstByOrderByIdDesc();
 }
@@ -1,8 +1,20 @@
 package com.assignment.repository;
 
 import com.assignment.model.Health;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface HealthRepository extends JpaRepository<Health, Long> {
+    // Read-only, so it is served from the replica pool
+    @Transactional(readOnly = true)
     Health findFirstByOrderByIdDesc();
+
+    // The same lookup for the write path. It reads from the primary and locks the row (SELECT ... FOR UPDATE) until
+    // the caller's transaction ends, so concurrent requests update the counters one after another instead of
+    // overwriting each other. Call it inside the transaction that saves the row.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Transactional
+    Health findFirstForWriteByOrderByIdDesc();
 }
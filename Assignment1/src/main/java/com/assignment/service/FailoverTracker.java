@@ -0,0 +1,49 @@
+package com.assignment.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Records when the heartbeat monitor sees an instance go down and come back up, keeping the newest
+// heartbeat.max-failover-events transitions so a flapping instance cannot grow it without bound
+@Service
+public class FailoverTracker {
+
+    public enum Transition {
+        DOWN,
+        UP
+    }
+
+    public record FailoverEvent(String instanceName, String url, Transition transition, Instant timestamp) {
+    }
+
+    @Value("${heartbeat.max-failover-events:1000}")
+    private int maxEvents;
+
+    private final Deque<FailoverEvent> events = new ArrayDeque<>();
+
+    public void recordDown(String instanceName, String url) {
+        record(new FailoverEvent(instanceName, url, Transition.DOWN, Instant.now()));
+    }
+
+    public void recordUp(String instanceName, String url) {
+        record(new FailoverEvent(instanceName, url, Transition.UP, Instant.now()));
+    }
+
+    // Oldest first
+    public synchronized List<FailoverEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    private synchronized void record(FailoverEvent event) {
+        events.addLast(event);
+        while (events.size() > maxEvents) {
+            events.removeFirst();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.assignment.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+// Simulated faults used by the failover benchmark. Inert unless fault-injection.enabled=true.
+@Service
+public class FaultInjector {
+
+    private static final Logger logger = LoggerFactory.getLogger(FaultInjector.class);
+
+    public enum Fault {
+        NONE,
+        HANG, // Every request blocks until the fault expires
+        SLOW, // Every request is delayed by fault-injection.slow-delay-ms
+        DROP_REPLICA_SYNC // Replica-sync messages are rejected and never applied
+    }
+
+    @Value("${fault-injection.enabled:false}")
+    private boolean enabled;
+
+    @Value("${fault-injection.slow-delay-ms:1500}")
+    private long slowDelayMs;
+
+    private volatile Fault fault = Fault.NONE;
+    private volatile long faultExpiresAt = Long.MAX_VALUE;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Fault getFault() {
+        if (System.currentTimeMillis() >= faultExpiresAt) {
+            return Fault.NONE;
+        }
+        return fault;
+    }
+
+    // Inject a fault for the given duration, or until cleared when the duration is not positive.
+    // A hung instance cannot be reached to clear its fault, so hangs should always be given a duration.
+    public void inject(Fault fault, long durationMs) {
+        if (!enabled) {
+            logger.warn("Fault injection is disabled. Ignoring request to inject {}", fault);
+            return;
+        }
+        logger.info("Injecting fault {} for {} ms", fault, durationMs > 0 ? durationMs : "unbounded");
+        faultExpiresAt = durationMs > 0 ? System.currentTimeMillis() + durationMs : Long.MAX_VALUE;
+        this.fault = fault;
+    }
+
+    public void clear() {
+        if (getFault() != Fault.NONE) {
+            logger.info("Clearing fault: {}", fault);
+        }
+        fault = Fault.NONE;
+        faultExpiresAt = Long.MAX_VALUE;
+    }
+
+    // Called at the start of every request handled by this instance
+    public void beforeRequest() {
+        if (getFault() == Fault.SLOW) {
+            sleep(slowDelayMs);
+        }
+        while (getFault() == Fault.HANG) {
+            sleep(50);
+        }
+    }
+
+    public boolean dropsReplicaSync() {
+        return getFault() == Fault.DROP_REPLICA_SYNC;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -4,17 +4,27 @@ import com.assignment.model.Health;
 import com.assignment.model.Response;
 import com.assignment.repository.HealthRepository;
 import com.assignment.repository.ResponseRepository;
+import com.assignment.trace.ForceCrashEvent;
+import com.assignment.trace.ReplicaBroadcastEvent;
+import com.assignment.trace.ResponseHealthCheckEvent;
+import com.assignment.trace.ResponseSaveEvent;
 
 import jakarta.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 
 import java.time.Duration;
@@ -22,6 +32,7 @@ import java.time.LocalDateTime;
 import java.util.Random;
 
 @Service
+@Lazy(false) // Request generation must run even with lazy initialization
 public class ResponseService {
 
     private static final Logger logger = LoggerFactory.getLogger(ResponseService.class);
@@ -32,6 +43,12 @@ public class ResponseService {
     @Autowired
     private HealthRepository healthRepository;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TraceService traceService;
+
     private final int MAX_REQUESTS_PER_MINUTE = 20;
     private final int MAX_ALLOWED_DIFF = 20;
 
@@ -49,6 +66,10 @@ public class ResponseService {
     @Value("${server.port}")
     private int serverPort;
 
+    // Port of the replica instance; when unset the 8080/8081 pairing is assumed
+    @Value("${replica.peer-port:0}")
+    private int peerPort;
+
     private int randomNumber = -1; // For random number generation in fault recovery
 
     // Add the activeInstance flag
@@ -64,6 +85,15 @@ public class ResponseService {
             activeInstance = false;
             logger.info("This instance (port {}) is passive at startup.", serverPort);
         }
+
+        // Create the health row before any request arrives, so concurrent first requests all lock this row
+        // instead of each inserting their own
+        if (healthRepository.findFirstForWriteByOrderByIdDesc() == null) {
+            Health health = new Health();
+            health.setNumRequests(0);
+            health.setFlag(1);
+            healthRepository.save(health);
+        }
     }
 
     // Dynamically update the active instance flag
@@ -164,8 +194,43 @@ public class ResponseService {
         return false;
     }
 
+    // Only the database writes run in a transaction. The crash handling and the broadcast call other instances,
+    // so they run after the commit instead of holding a primary connection for the round trip.
     public Response saveRandomResponse(String randomData) {
-        Health health = healthRepository.findFirstByOrderByIdDesc();
+        return saveRandomResponse(randomData, null);
+    }
+
+    // requestId is the client's X-Request-Id, or null
+    public Response saveRandomResponse(String randomData, String requestId) {
+        ResponseSaveEvent event = new ResponseSaveEvent();
+        event.begin();
+        event.data = randomData;
+        event.excessRequests = excessRequestsInCurrentWindow;
+
+        try {
+            SavedResponse saved = transactionTemplate.execute(status -> saveResponse(randomData, requestId));
+
+            if (saved.crashTriggered()) {
+                event.crashTriggered = true;
+                forceCrash();
+            }
+
+            // Broadcast operation to the other instance
+            broadcastOperationToReplica(randomData, requestId);
+
+            event.success = true;
+            return saved.response();
+        } finally {
+            traceService.commit(event);
+        }
+    }
+
+    private record SavedResponse(Response response, boolean crashTriggered) {
+    }
+
+    private SavedResponse saveResponse(String randomData, String requestId) {
+        boolean crashTriggered = false;
+        Health health = healthRepository.findFirstForWriteByOrderByIdDesc();
 
         if (health == null) {
             health = new Health();
@@ -190,14 +255,14 @@ public class ResponseService {
                 logger.info("Excess requests in current window exceed the allowed limit. Initiating force crash.");
                 health.setFlag(0);
                 healthRepository.save(health);
-                forceCrash();
-                forceCrashTriggered = true; // Set the flag to avoid repeated crashes
+                crashTriggered = true; // The crash itself runs once this is committed
                 resetExcessRequests(); // Reset request counters after crash
             }
         }
 
         Response response = new Response();
         response.setData(randomData);
+        response.setRequestId(requestId);
         response.setTimestamp(LocalDateTime.now());
         response.setHealth(health);
 
@@ -217,10 +282,7 @@ public class ResponseService {
 
         healthRepository.save(health);
 
-        // Broadcast operation to the other instance
-        broadcastOperationToReplica(randomData);
-
-        return response;
+        return new SavedResponse(response, crashTriggered);
     }
 
     private void resetExcessRequests() {
@@ -229,26 +291,46 @@ public class ResponseService {
         forceCrashTriggered = false; // Reset the flag after a cooldown period if needed
     }
 
-    private void broadcastOperationToReplica(String data) {
-        int otherInstancePort = (serverPort == 8080) ? 8081 : 8080; // Use updated serverPort
+    private void broadcastOperationToReplica(String data, String requestId) {
+        int otherInstancePort = getOtherInstancePort(); // Use updated serverPort
         String replicaUrl = "http://localhost:" + otherInstancePort + "/response/replica-sync";
 
+        ReplicaBroadcastEvent event = new ReplicaBroadcastEvent();
+        event.begin();
+        event.url = replicaUrl;
+
         try {
-            restTemplate.postForEntity(replicaUrl, data, String.class);
+            HttpHeaders headers = new HttpHeaders();
+            if (requestId != null) {
+                headers.set("X-Request-Id", requestId);
+            }
+            restTemplate.postForEntity(replicaUrl, new HttpEntity<>(data, headers), String.class);
+            event.success = true;
             logger.info("Broadcasted operation to replica at {}", replicaUrl);
         } catch (Exception e) {
+            event.error = e.getMessage();
             logger.error("Failed to broadcast operation to replica: {}", e.getMessage());
         }
+
+        traceService.commit(event);
+    }
+
+    private int getOtherInstancePort() {
+        if (peerPort > 0) {
+            return peerPort;
+        }
+        return (serverPort == 8080) ? 8081 : 8080;
     }
 
     // Method to process data received from replica
-    public void processReplicaData(String data) {
-        saveRandomResponseWithoutBroadcast(data);
+    @Transactional
+    public void processReplicaData(String data, String requestId) {
+        saveRandomResponseWithoutBroadcast(data, requestId);
     }
 
     // Save response without broadcasting to avoid infinite loops
-    private void saveRandomResponseWithoutBroadcast(String randomData) {
-        Health health = healthRepository.findFirstByOrderByIdDesc();
+    private void saveRandomResponseWithoutBroadcast(String randomData, String requestId) {
+        Health health = healthRepository.findFirstForWriteByOrderByIdDesc();
 
         if (health == null) {
             health = new Health();
@@ -259,6 +341,7 @@ public class ResponseService {
 
         Response response = new Response();
         response.setData(randomData);
+        response.setRequestId(requestId);
         response.setTimestamp(LocalDateTime.now());
         response.setHealth(health);
 
@@ -267,10 +350,13 @@ public class ResponseService {
     }
 
     private void forceCrash() {
+        ForceCrashEvent event = new ForceCrashEvent();
+        event.begin();
+
         logger.info("Initiating comparison to determine which instance will crash...");
 
         // Get random number from the other instance
-        int otherInstancePort = (serverPort == 8080) ? 8081 : 8080;
+        int otherInstancePort = getOtherInstancePort();
         int otherRandomNumber;
 
         do {
@@ -284,10 +370,16 @@ public class ResponseService {
 
         } while (randomNumber == otherRandomNumber);
 
+        event.port = serverPort;
+        event.randomNumber = randomNumber;
+        event.otherPort = otherInstancePort;
+        event.otherRandomNumber = otherRandomNumber;
+
         // Compare random numbers, the instance with the lower number will continue
         if (randomNumber < otherRandomNumber) {
             logger.info("This instance (port {}) will continue running. Other instance will go down.",
                     serverPort);
+            event.stoppedPort = otherInstancePort;
 
             // Inform the health controller that this instance is down
             informHealthEndpoint(otherInstancePort);
@@ -307,6 +399,7 @@ public class ResponseService {
 
         } else {
             logger.info("This instance (port {}) will stop processing requests.", serverPort);
+            event.stoppedPort = serverPort;
 
             // Inform the health controller that this instance is down
             informHealthEndpoint(serverPort); // Pass the current instance's port
@@ -327,6 +420,8 @@ public class ResponseService {
                 generateAndSendRandomRequests(); // Start the request processing on the new instance
             }).start();
         }
+
+        traceService.commit(event);
     }
 
     private void scheduleInstanceRestart(int port, long delayMillis) {
@@ -398,22 +493,34 @@ public class ResponseService {
 
     // Check if /response is alive
     private void checkResponseHealth() {
+        ResponseHealthCheckEvent event = new ResponseHealthCheckEvent();
+        event.begin();
+        event.url = "http://localhost:" + serverPort + "/response";
+
         try {
             ResponseEntity<String> responseHealthCheck = restTemplate.getForEntity(
-                    "http://localhost:" + serverPort + "/response",
+                    event.url,
                     String.class);
             if (responseHealthCheck.getStatusCode().is2xxSuccessful()) {
                 logger.info("/response is still alive.");
                 responseAlive = true; // Mark response as alive
+                event.alive = true;
             } else {
                 logger.error("/response is down. Status code: " + responseHealthCheck.getStatusCode().value());
                 responseAlive = false;
                 logger.info("System is down.");
             }
         } catch (HttpStatusCodeException e) {
+            event.error = e.getMessage();
             logger.error("/response is down. Error while checking /response status: " + e.getMessage());
             responseAlive = false;
             logger.info("System is down.");
+        } catch (RestClientException e) {
+            // No response at all, e.g. a refused connection; recorded on the event and passed on as before
+            event.error = e.getMessage();
+            throw e;
+        } finally {
+            traceService.commit(event);
         }
     }
 
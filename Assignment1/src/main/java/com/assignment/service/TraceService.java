@@ -0,0 +1,117 @@
+package com.assignment.service;
+
+import com.assignment.trace.TraceEvent;
+import com.assignment.trace.TraceWindow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Always-on trace of the request and failover events in com.assignment.trace. The newest trace.capacity events
+// are kept in an in-memory ring buffer; committing one is an atomic increment and an array store, without locks
+// or I/O, and nothing has to be started at boot.
+@Service
+public class TraceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TraceService.class);
+
+    @Value("${trace.enabled:true}")
+    private boolean enabled;
+
+    @Value("${trace.capacity:4096}")
+    private int capacity;
+
+    private static final DateTimeFormatter DUMP_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    // Directory a dump is written to on a graceful shutdown, so the moments before it are kept; empty to skip.
+    // Every dump gets its own timestamped file, so a restart does not overwrite the previous one.
+    @Value("${trace.dump-dir:${java.io.tmpdir}}")
+    private String dumpDir;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private AtomicReferenceArray<TraceEvent> events;
+    private final AtomicLong nextIndex = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        // Checked here, so a bad setting stops the startup instead of failing every traced request
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("trace.capacity must be positive, was " + capacity);
+        }
+        events = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void commit(TraceEvent event) {
+        if (!enabled) {
+            return;
+        }
+        event.end();
+        events.set((int) (nextIndex.getAndIncrement() % capacity), event);
+    }
+
+    // Events recorded in the last given number of seconds, oldest first
+    public TraceWindow getEvents(long seconds) {
+        Instant since = Instant.now().minusSeconds(seconds);
+        boolean wrapped = nextIndex.get() > capacity;
+        List<TraceEvent> retained = getEvents();
+        Instant oldestRetained = retained.isEmpty() ? null : retained.get(0).getStartTime();
+        // Once the buffer has wrapped, events older than the oldest retained one have been dropped
+        boolean truncated = wrapped && oldestRetained != null && oldestRetained.isAfter(since);
+        List<TraceEvent> inWindow = retained.stream()
+                .filter(event -> !event.getStartTime().isBefore(since))
+                .toList();
+        return new TraceWindow(since, oldestRetained, truncated, inWindow);
+    }
+
+    // Every event still in the buffer, oldest first
+    public List<TraceEvent> getEvents() {
+        List<TraceEvent> snapshot = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            TraceEvent event = events.get(i);
+            if (event != null) {
+                snapshot.add(event);
+            }
+        }
+        snapshot.sort(Comparator.comparing(TraceEvent::getStartTime));
+        return snapshot;
+    }
+
+    @PreDestroy
+    public void dump() {
+        if (!enabled || dumpDir.isEmpty()) {
+            return;
+        }
+
+        List<TraceEvent> snapshot = getEvents();
+        File dumpFile = new File(dumpDir,
+                "trace-" + serverPort + "-" + LocalDateTime.now().format(DUMP_TIMESTAMP) + ".json");
+        try {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(dumpFile, snapshot);
+            logger.info("Wrote {} trace events to {}", snapshot.size(), dumpFile);
+        } catch (IOException e) {
+            logger.error("Failed to write trace events to {}: {}", dumpFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.assignment.trace;
+
+// The comparison that decides which instance stops processing after too many excess requests
+public class ForceCrashEvent extends TraceEvent {
+
+    public int port;
+    public int randomNumber;
+    public int otherPort;
+    public int otherRandomNumber;
+    public int stoppedPort;
+
+    public ForceCrashEvent() {
+        super("ForceCrash");
+    }
+}
@@ -0,0 +1,14 @@
+package com.assignment.trace;
+
+// A heartbeat request from the health monitor to an instance's /health
+public class HeartbeatProbeEvent extends TraceEvent {
+
+    public String instanceName;
+    public String url;
+    public boolean alive;
+    public String error;
+
+    public HeartbeatProbeEvent() {
+        super("HeartbeatProbe");
+    }
+}
@@ -0,0 +1,13 @@
+package com.assignment.trace;
+
+// A stored response sent to the other instance's /response/replica-sync
+public class ReplicaBroadcastEvent extends TraceEvent {
+
+    public String url;
+    public boolean success;
+    public String error;
+
+    public ReplicaBroadcastEvent() {
+        super("ReplicaBroadcast");
+    }
+}
@@ -0,0 +1,13 @@
+package com.assignment.trace;
+
+// A check of this instance's GET /response after a request to it failed
+public class ResponseHealthCheckEvent extends TraceEvent {
+
+    public String url;
+    public boolean alive;
+    public String error;
+
+    public ResponseHealthCheckEvent() {
+        super("ResponseHealthCheck");
+    }
+}
@@ -0,0 +1,14 @@
+package com.assignment.trace;
+
+// A response stored by ResponseService.saveRandomResponse, including the replica broadcast
+public class ResponseSaveEvent extends TraceEvent {
+
+    public String data;
+    public int excessRequests;
+    public boolean crashTriggered;
+    public boolean success;
+
+    public ResponseSaveEvent() {
+        super("ResponseSave");
+    }
+}
@@ -0,0 +1,49 @@
+package com.assignment.trace;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.time.Instant;
+
+// Base of the events kept by TraceService. Subclasses add public fields, which are reported with the event.
+@JsonPropertyOrder({ "type", "startTime", "durationMs", "thread" })
+public abstract class TraceEvent {
+
+    private final String type;
+    private Instant startTime;
+    private long startNanos;
+    private long durationNanos = -1;
+    private String thread;
+
+    protected TraceEvent(String type) {
+        this.type = type;
+    }
+
+    public void begin() {
+        startTime = Instant.now();
+        startNanos = System.nanoTime();
+        thread = Thread.currentThread().getName();
+    }
+
+    // Ends the timed part of the event; called by TraceService.commit if not called before
+    public void end() {
+        if (durationNanos < 0) {
+            durationNanos = System.nanoTime() - startNanos;
+        }
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public double getDurationMs() {
+        return durationNanos / 1_000_000.0;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+}
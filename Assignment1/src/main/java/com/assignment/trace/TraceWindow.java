@@ -0,0 +1,9 @@
+package com.assignment.trace;
+
+import java.time.Instant;
+import java.util.List;
+
+// The events of a requested time window. When the ring buffer has already dropped events from inside the window,
+// truncated is set and oldestRetained tells how far back the events really go.
+public record TraceWindow(Instant since, Instant oldestRetained, boolean truncated, List<TraceEvent> events) {
+}
@@ -0,0 +1,28 @@
+-- Schema used by the fast-start profile instead of Hibernate's runtime DDL.
+-- Generated from the JPA entities in com.assignment.model; regenerate it when they change, e.g. by running with
+-- --spring.jpa.properties.jakarta.persistence.schema-generation.scripts.action=create
+-- --spring.jpa.properties.jakarta.persistence.schema-generation.scripts.create-target=schema.sql
+
+create table if not exists client (
+    id bigint generated by default as identity,
+    data varchar(255),
+    primary key (id)
+);
+
+create table if not exists health (
+    diff integer not null,
+    flag integer,
+    num_requests integer,
+    id bigint generated by default as identity,
+    primary key (id)
+);
+
+create table if not exists response (
+    health_id bigint not null,
+    id bigint generated by default as identity,
+    timestamp timestamp(6),
+    data varchar(255),
+    request_id varchar(64),
+    primary key (id),
+    constraint FKrfua3l2tsm4gaxihmkpdweqy8 foreign key (health_id) references health
+);
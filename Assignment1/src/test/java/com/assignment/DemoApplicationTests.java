@@ -3,7 +3,8 @@ package com.assignment;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// No trace dump when the test context shuts down
+@SpringBootTest(properties = "trace.dump-dir=")
 class Assignment1ApplicationTests {
 
     @Test
@@ -0,0 +1,167 @@
+package com.assignment.benchmark;
+
+import com.assignment.Assignment1Application;
+import com.assignment.service.FailoverTracker;
+import com.assignment.service.FaultInjector;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// One response-service instance running in its own JVM on its own port and database
+class BenchmarkInstance implements AutoCloseable {
+
+    private static final Path WORK_DIR = Path.of("target", "failover-benchmark");
+    private static final long STARTUP_TIMEOUT_MS = 120000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final String name;
+    private final int port;
+    private final int peerPort;
+    private final String databaseUrl;
+    private final Process process;
+
+    private BenchmarkInstance(String name, int port, int peerPort, String databaseUrl, Process process) {
+        this.name = name;
+        this.port = port;
+        this.peerPort = peerPort;
+        this.databaseUrl = databaseUrl;
+        this.process = process;
+    }
+
+    static BenchmarkInstance start(String name, int port, int peerPort, BenchmarkSettings settings)
+            throws IOException, InterruptedException {
+        Files.createDirectories(WORK_DIR);
+        // A file database with AUTO_SERVER lets the benchmark read what the instance stored.
+        // Every start gets a fresh database, as an in-memory one would be after a crash.
+        String databaseUrl = "jdbc:h2:file:" + WORK_DIR.toAbsolutePath().resolve(name + "-" + System.nanoTime())
+                + ";AUTO_SERVER=TRUE";
+
+        List<String> command = List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Dspring.devtools.restart.enabled=false",
+                "-cp", System.getProperty("java.class.path"),
+                Assignment1Application.class.getName(),
+                "--spring.profiles.active=failover-benchmark",
+                "--spring.main.banner-mode=off",
+                "--spring.devtools.livereload.enabled=false",
+                "--server.port=" + port,
+                "--replica.peer-port=" + peerPort,
+                "--spring.datasource.url=" + databaseUrl,
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=password",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--heartbeat.instance1-url=http://localhost:" + port + "/health",
+                "--heartbeat.instance2-url=http://localhost:" + peerPort + "/health",
+                "--heartbeat.interval-ms=" + settings.heartbeatIntervalMs(),
+                "--heartbeat.timeout-ms=" + settings.heartbeatTimeoutMs(),
+                "--fault-injection.enabled=true",
+                "--fault-injection.slow-delay-ms=" + settings.slowDelayMs(),
+                "--trace.enabled=" + settings.traceEnabled(),
+                "--trace.dump-dir=");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(WORK_DIR.resolve(name + "-" + port + ".log").toFile())
+                .start();
+
+        BenchmarkInstance instance = new BenchmarkInstance(name, port, peerPort, databaseUrl, process);
+        instance.awaitStarted();
+        return instance;
+    }
+
+    // Start a fresh process in place of this one, as a supervisor would after a crash
+    BenchmarkInstance restart(BenchmarkSettings settings) throws IOException, InterruptedException {
+        kill();
+        return start(name, port, peerPort, settings);
+    }
+
+    String healthUrl() {
+        return "http://localhost:" + port + "/health";
+    }
+
+    void injectFault(FaultInjector.Fault fault, long durationMs) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/fault?type=" + fault + "&durationMs=" + durationMs))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not inject " + fault + " into " + name + ": " + response.body());
+        }
+    }
+
+    // Transitions seen by this instance's heartbeat monitor, or an empty list if it cannot answer right now
+    List<FailoverTracker.FailoverEvent> failoverEvents() throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(healthUrl() + "/failover-events"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return objectMapper.readValue(response.body(), new TypeReference<>() {
+            });
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    // X-Request-Id of every response the instance stored, including replicated ones
+    List<String> storedRequestIds() throws SQLException {
+        List<String> requestIds = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(databaseUrl, "sa", "password");
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(
+                        "SELECT request_id FROM response WHERE request_id IS NOT NULL")) {
+            while (resultSet.next()) {
+                requestIds.add(resultSet.getString(1));
+            }
+        }
+        return requestIds;
+    }
+
+    void kill() throws InterruptedException {
+        process.destroyForcibly();
+        process.waitFor();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        kill();
+    }
+
+    private void awaitStarted() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MS;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(healthUrl()))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited during startup, see " + WORK_DIR);
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(100);
+        }
+        kill();
+        throw new IllegalStateException(name + " did not start within " + STARTUP_TIMEOUT_MS + " ms");
+    }
+}
@@ -0,0 +1,33 @@
+package com.assignment.benchmark;
+
+// Benchmark knobs, overridable with -Dbenchmark.<name>=<value>
+record BenchmarkSettings(
+        long heartbeatIntervalMs,
+        long heartbeatTimeoutMs,
+        long slowDelayMs,
+        int iterations,
+        long requestIntervalMs,
+        long requestTimeoutMs,
+        long baselineMs,
+        long faultDurationMs,
+        long detectTimeoutMs,
+        long recoverTimeoutMs,
+        boolean traceEnabled) {
+
+    static BenchmarkSettings fromSystemProperties() {
+        long interval = Long.getLong("benchmark.heartbeat-interval-ms", 1000);
+        long timeout = Long.getLong("benchmark.heartbeat-timeout-ms", 500);
+        return new BenchmarkSettings(
+                interval,
+                timeout,
+                Long.getLong("benchmark.slow-delay-ms", timeout * 2),
+                Integer.getInteger("benchmark.iterations", 3),
+                Long.getLong("benchmark.request-interval-ms", 50),
+                Long.getLong("benchmark.request-timeout-ms", 1000),
+                Long.getLong("benchmark.baseline-ms", 3000),
+                Long.getLong("benchmark.fault-duration-ms", 5000),
+                Long.getLong("benchmark.detect-timeout-ms", interval * 10),
+                Long.getLong("benchmark.recover-timeout-ms", 60000),
+                Boolean.parseBoolean(System.getProperty("benchmark.trace-enabled", "true")));
+    }
+}
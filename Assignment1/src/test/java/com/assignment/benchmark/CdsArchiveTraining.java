@@ -0,0 +1,38 @@
+package com.assignment.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes the Class Data Sharing archive used in fast-start mode: starts the instance once from the packaged jar,
+ * waits for the first healthy GET /health and stops it gracefully, so the archive holds the classes loaded up
+ * to that point. Run by the fast-start build profile in the package phase.
+ *
+ * Arguments: jar, dependency directory, archive file
+ */
+public final class CdsArchiveTraining {
+
+    private CdsArchiveTraining() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: CdsArchiveTraining <jar> <lib dir> <archive>");
+        }
+        Path jar = Path.of(args[0]);
+        Path libDir = Path.of(args[1]);
+        Path archive = Path.of(args[2]);
+
+        Files.deleteIfExists(archive);
+        StartupProcess startup = new StartupProcess(jar, libDir, archive.getParent());
+        long startupMs = startup.timeToHealthy(
+                List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dspring.aot.enabled=true"),
+                "instance1,fast-start", "training", true);
+
+        if (!Files.exists(archive)) {
+            throw new IllegalStateException("The training run did not write " + archive);
+        }
+        System.out.printf("CDS archive %s written after a %d ms training run%n", archive, startupMs);
+    }
+}
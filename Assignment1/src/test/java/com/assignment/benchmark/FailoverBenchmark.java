@@ -0,0 +1,248 @@
+package com.assignment.benchmark;
+
+import com.assignment.service.FailoverTracker;
+import com.assignment.service.FaultInjector;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Boots a primary and a standby instance as separate JVMs on random ports, drives POST /response load at the
+ * primary (falling back to the standby), injects a fault and measures how long the standby's heartbeat
+ * monitor takes to detect it and to see the primary healthy again, plus how many acknowledged requests the
+ * standby is missing or stored twice and how far throughput drops while the primary is faulty.
+ * MTTR is measured from detection; recovery after clear is measured from the moment the fault ends (the
+ * injected fault expires, or the killed primary is restarted), which is the part the heartbeat settings affect.
+ *
+ * The baseline throughput before the fault, with -Dbenchmark.request-interval-ms=0 to saturate the primary and
+ * -Dbenchmark.trace-enabled=false, shows the per-request cost of the trace.
+ *
+ * Run with: mvn test -Pfailover-benchmark [-Dbenchmark.heartbeat-interval-ms=1000 -Dbenchmark.heartbeat-timeout-ms=500]
+ * Results are printed and appended to target/failover-benchmark.csv.
+ */
+@Tag("benchmark")
+class FailoverBenchmark {
+
+    enum Scenario {
+        KILL, // Primary process is killed, then restarted on the same port once the crash is detected
+        HANG, // Primary stops answering any request for the fault duration
+        SLOW, // Primary answers every request after fault-injection.slow-delay-ms for the fault duration
+        DROP_REPLICA_SYNC // Standby rejects replica-sync from the primary for the fault duration
+    }
+
+    record IterationResult(Long timeToDetectMs, Long timeToRecoverMs, Long recoveryAfterClearMs, int acked,
+            int failed, int lost, int duplicated, double baselineRate, double throughputDipPercent) {
+    }
+
+    private final BenchmarkSettings settings = BenchmarkSettings.fromSystemProperties();
+
+    @Test
+    void measureFailover() throws Exception {
+        Map<Scenario, List<IterationResult>> results = new HashMap<>();
+        for (Scenario scenario : Scenario.values()) {
+            List<IterationResult> iterations = new ArrayList<>();
+            for (int i = 0; i < settings.iterations(); i++) {
+                iterations.add(runIteration(scenario));
+            }
+            results.put(scenario, iterations);
+        }
+
+        report(results);
+
+        // Every fault that makes the primary unhealthy must be noticed; a dropped replica sync is not visible
+        // to the heartbeat and only shows up as lost requests
+        for (Scenario scenario : Scenario.values()) {
+            if (scenario == Scenario.DROP_REPLICA_SYNC) {
+                continue;
+            }
+            long detected = results.get(scenario).stream().filter(r -> r.timeToDetectMs() != null).count();
+            assertEquals(settings.iterations(), detected, scenario + " was not detected in every iteration");
+        }
+    }
+
+    private IterationResult runIteration(Scenario scenario) throws Exception {
+        int primaryPort = freePort();
+        int standbyPort = freePort();
+        BenchmarkInstance primary = BenchmarkInstance.start("primary", primaryPort, standbyPort, settings);
+        BenchmarkInstance standby = null;
+        try {
+            standby = BenchmarkInstance.start("standby", standbyPort, primaryPort, settings);
+
+            // Let the monitors settle; transitions before the fault are ignored
+            Thread.sleep(settings.heartbeatIntervalMs() * 2);
+
+            LoadDriver driver = new LoadDriver(primaryPort, standbyPort, settings);
+            driver.start();
+            Thread.sleep(settings.baselineMs());
+
+            Instant injected = Instant.now();
+            switch (scenario) {
+                case KILL -> primary.kill();
+                case HANG -> primary.injectFault(FaultInjector.Fault.HANG, settings.faultDurationMs());
+                case SLOW -> primary.injectFault(FaultInjector.Fault.SLOW, settings.faultDurationMs());
+                case DROP_REPLICA_SYNC ->
+                        standby.injectFault(FaultInjector.Fault.DROP_REPLICA_SYNC, settings.faultDurationMs());
+            }
+
+            Instant detected = awaitTransition(standby, primary.healthUrl(), FailoverTracker.Transition.DOWN,
+                    injected, settings.detectTimeoutMs());
+
+            Instant cleared;
+            if (scenario == Scenario.KILL) {
+                // Restart as soon as the crash is noticed; the boot time counts towards recovery
+                cleared = Instant.now();
+                primary = primary.restart(settings);
+            } else {
+                // Injected faults expire on their own
+                cleared = injected.plusMillis(settings.faultDurationMs());
+                Thread.sleep(Math.max(0, cleared.toEpochMilli() - System.currentTimeMillis()));
+            }
+
+            Instant recovered = null;
+            if (detected != null) {
+                recovered = awaitTransition(standby, primary.healthUrl(), FailoverTracker.Transition.UP,
+                        detected, settings.recoverTimeoutMs());
+            }
+
+            Thread.sleep(settings.baselineMs());
+            driver.stop();
+
+            long faultEnd = (recovered != null && recovered.isAfter(cleared)) ? recovered.toEpochMilli()
+                    : cleared.toEpochMilli();
+            return summarize(driver, standby.storedRequestIds(), injected.toEpochMilli(), faultEnd,
+                    detected == null ? null : detected.toEpochMilli() - injected.toEpochMilli(),
+                    recovered == null ? null : recovered.toEpochMilli() - detected.toEpochMilli(),
+                    recovered == null ? null : recovered.toEpochMilli() - cleared.toEpochMilli());
+        } finally {
+            primary.close();
+            if (standby != null) {
+                standby.close();
+            }
+        }
+    }
+
+    // Polls the standby's monitor for the first transition of the primary after the given instant
+    private Instant awaitTransition(BenchmarkInstance monitor, String url, FailoverTracker.Transition transition,
+            Instant after, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (System.currentTimeMillis() < deadline) {
+            for (FailoverTracker.FailoverEvent event : monitor.failoverEvents()) {
+                if (event.url().equals(url) && event.transition() == transition
+                        && !event.timestamp().isBefore(after)) {
+                    return event.timestamp();
+                }
+            }
+            Thread.sleep(50);
+        }
+        return null;
+    }
+
+    private IterationResult summarize(LoadDriver driver, List<String> standbyRequestIds, long faultStart, long faultEnd,
+            Long timeToDetectMs, Long timeToRecoverMs, Long recoveryAfterClearMs) {
+        List<LoadDriver.Ack> acks = driver.acks();
+
+        // Anything acknowledged to the client must have reached the standby to survive a failover. A request
+        // stored by both the retry and the primary's late broadcast shows up twice under its request ID.
+        Set<String> stored = new HashSet<>(standbyRequestIds);
+        int lost = (int) acks.stream().filter(ack -> !stored.contains(ack.requestId())).count();
+        int duplicated = standbyRequestIds.size() - stored.size();
+
+        // Mean throughput between the fault and the recovery against the baseline before the fault
+        long baselineStart = faultStart - settings.baselineMs();
+        double baselineRate = rate(acks, baselineStart, faultStart);
+        double faultRate = rate(acks, faultStart, faultEnd);
+        double dip = baselineRate > 0 ? (1 - faultRate / baselineRate) * 100 : 0;
+
+        return new IterationResult(timeToDetectMs, timeToRecoverMs, recoveryAfterClearMs, acks.size(),
+                driver.failed(), lost, duplicated, baselineRate, Math.max(dip, 0));
+    }
+
+    private double rate(List<LoadDriver.Ack> acks, long from, long to) {
+        if (to <= from) {
+            return 0;
+        }
+        long count = acks.stream().filter(ack -> ack.timestampMillis() >= from && ack.timestampMillis() < to).count();
+        return count * 1000.0 / (to - from);
+    }
+
+    private void report(Map<Scenario, List<IterationResult>> results) throws IOException {
+        Path csv = Path.of("target", "failover-benchmark.csv");
+        boolean newFile = !Files.exists(csv);
+        Files.createDirectories(csv.getParent());
+
+        System.out.printf("%nFailover benchmark (heartbeat interval %d ms, timeout %d ms, %d iterations, trace %s)%n",
+                settings.heartbeatIntervalMs(), settings.heartbeatTimeoutMs(), settings.iterations(),
+                settings.traceEnabled() ? "on" : "off");
+        System.out.printf("%-18s %10s %10s %16s %9s %8s %6s %6s %6s %15s %8s%n", "scenario", "MTTD(ms)", "MTTR(ms)",
+                "after clear(ms)", "detected", "acked", "failed", "lost", "dup", "baseline(req/s)", "dip(%)");
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND))) {
+            if (newFile) {
+                out.println("timestamp,heartbeat_interval_ms,heartbeat_timeout_ms,trace_enabled,scenario,iterations,"
+                        + "detected,mttd_ms,mttr_ms,recovery_after_clear_ms,acked,failed,lost,duplicated,"
+                        + "baseline_requests_per_second,throughput_dip_percent");
+            }
+            for (Scenario scenario : Scenario.values()) {
+                List<IterationResult> iterations = results.get(scenario);
+                long detected = iterations.stream().filter(r -> r.timeToDetectMs() != null).count();
+                String mttd = format(mean(iterations, IterationResult::timeToDetectMs));
+                String mttr = format(mean(iterations, IterationResult::timeToRecoverMs));
+                String afterClear = format(mean(iterations, IterationResult::recoveryAfterClearMs));
+                int acked = iterations.stream().mapToInt(IterationResult::acked).sum();
+                int failed = iterations.stream().mapToInt(IterationResult::failed).sum();
+                int lost = iterations.stream().mapToInt(IterationResult::lost).sum();
+                int duplicated = iterations.stream().mapToInt(IterationResult::duplicated).sum();
+                double baselineRate = iterations.stream().mapToDouble(IterationResult::baselineRate).average()
+                        .orElse(0);
+                double dip = iterations.stream().mapToDouble(IterationResult::throughputDipPercent).average()
+                        .orElse(0);
+
+                System.out.printf("%-18s %10s %10s %16s %6d/%-2d %8d %6d %6d %6d %15.1f %8.1f%n", scenario, mttd,
+                        mttr, afterClear, detected, iterations.size(), acked, failed, lost, duplicated, baselineRate,
+                        dip);
+                out.printf("%s,%d,%d,%s,%s,%d,%d,%s,%s,%s,%d,%d,%d,%d,%.1f,%.1f%n", Instant.now(),
+                        settings.heartbeatIntervalMs(), settings.heartbeatTimeoutMs(), settings.traceEnabled(),
+                        scenario, iterations.size(), detected, mttd, mttr, afterClear, acked, failed, lost,
+                        duplicated, baselineRate, dip);
+            }
+        }
+    }
+
+    // Mean over the iterations where the value was observed
+    private OptionalDouble mean(List<IterationResult> iterations, Function<IterationResult, Long> value) {
+        return iterations.stream()
+                .map(value)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .average();
+    }
+
+    private String format(OptionalDouble value) {
+        return value.isPresent() ? String.format("%.0f", value.getAsDouble()) : "n/a";
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
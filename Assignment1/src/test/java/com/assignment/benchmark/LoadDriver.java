@@ -0,0 +1,95 @@
+package com.assignment.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Sends POST /response at a fixed rate, failing over from the primary to the standby on error. Each request
+// carries its own X-Request-Id, reused for the retry, which the instances store with the response.
+class LoadDriver {
+
+    record Ack(long timestampMillis, String requestId) {
+    }
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final List<Ack> acks = new CopyOnWriteArrayList<>();
+    private final int primaryPort;
+    private final int standbyPort;
+    private final BenchmarkSettings settings;
+
+    private volatile boolean running;
+    private Thread thread;
+    private int failed;
+    private long nextRequestId;
+
+    LoadDriver(int primaryPort, int standbyPort, BenchmarkSettings settings) {
+        this.primaryPort = primaryPort;
+        this.standbyPort = standbyPort;
+        this.settings = settings;
+    }
+
+    void start() {
+        running = true;
+        thread = new Thread(this::run, "failover-load-driver");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        thread.join();
+    }
+
+    List<Ack> acks() {
+        return new ArrayList<>(acks);
+    }
+
+    int failed() {
+        return failed;
+    }
+
+    private void run() {
+        while (running) {
+            long started = System.currentTimeMillis();
+            String requestId = "req-" + nextRequestId++;
+            boolean acked = send(primaryPort, requestId) || send(standbyPort, requestId);
+            if (acked) {
+                acks.add(new Ack(System.currentTimeMillis(), requestId));
+            } else {
+                failed++;
+            }
+
+            long remaining = settings.requestIntervalMs() - (System.currentTimeMillis() - started);
+            if (remaining > 0) {
+                try {
+                    Thread.sleep(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Returns whether the instance acknowledged the request with a 2xx response
+    private boolean send(int port, String requestId) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/response"))
+                .timeout(Duration.ofMillis(settings.requestTimeoutMs()))
+                .header("X-Request-Id", requestId)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.assignment.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures cold start as the time from launching a replacement instance's JVM to its first successful
+ * GET /health, once with the default startup and once in fast-start mode (Spring AOT, the Class Data Sharing
+ * archive written by CdsArchiveTraining, lazy initialization and the precomputed schema). Fails if fast-start
+ * exceeds startup.target-ms.
+ *
+ * Run with: mvn verify -Pfast-start [-Dstartup.target-ms=10000 -Dstartup.runs=3]
+ * Results are printed and appended to startup.results-file.
+ */
+class StartupBenchmarkIT {
+
+    private static final Path WORK_DIR = Path.of("target", "fast-start");
+    private static final Path CDS_ARCHIVE = WORK_DIR.resolve("app-cds.jsa");
+
+    private final long targetMs = Long.getLong("startup.target-ms", 10000);
+    private final int runs = Integer.getInteger("startup.runs", 3);
+    private final Path resultsFile = Path.of(System.getProperty("startup.results-file",
+            "benchmark-results/startup-benchmark.csv"));
+
+    @Test
+    void coldStartStaysUnderTarget() throws Exception {
+        assertTrue(Files.exists(CDS_ARCHIVE), CDS_ARCHIVE + " is missing, build with mvn package -Pfast-start");
+        StartupProcess startup = new StartupProcess(Path.of(System.getProperty("startup.jar")),
+                WORK_DIR.resolve("lib"), WORK_DIR);
+
+        double defaultMs = meanTimeToHealthy(startup, List.of(), "instance1", "default");
+        double fastStartMs = meanTimeToHealthy(startup,
+                List.of("-XX:SharedArchiveFile=" + CDS_ARCHIVE, "-Dspring.aot.enabled=true"),
+                "instance1,fast-start", "fast-start");
+
+        System.out.printf("%nStartup benchmark (%d runs): default %.0f ms, fast-start %.0f ms, target %d ms%n",
+                runs, defaultMs, fastStartMs, targetMs);
+        record(defaultMs, fastStartMs);
+
+        assertTrue(fastStartMs <= targetMs,
+                String.format("Fast-start cold start took %.0f ms, target is %d ms", fastStartMs, targetMs));
+    }
+
+    private double meanTimeToHealthy(StartupProcess startup, List<String> jvmOptions, String profiles, String mode)
+            throws Exception {
+        long total = 0;
+        for (int i = 0; i < runs; i++) {
+            total += startup.timeToHealthy(jvmOptions, profiles, mode, false);
+        }
+        return (double) total / runs;
+    }
+
+    private void record(double defaultMs, double fastStartMs) throws IOException {
+        boolean newFile = !Files.exists(resultsFile);
+        if (resultsFile.getParent() != null) {
+            Files.createDirectories(resultsFile.getParent());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(resultsFile, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND))) {
+            if (newFile) {
+                out.println("timestamp,version,runs,default_ms,fast_start_ms,target_ms");
+            }
+            out.printf("%s,%s,%d,%.0f,%.0f,%d%n", Instant.now(), System.getProperty("startup.version"), runs,
+                    defaultMs, fastStartMs, targetMs);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.assignment.benchmark;
+
+import com.assignment.Assignment1Application;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Launches an instance from the packaged jar and its dependencies, as documented in the README, and measures the
+// time to its first successful GET /health
+final class StartupProcess {
+
+    private static final long STARTUP_TIMEOUT_MS = 120000;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final String classPath;
+    private final Path logDir;
+
+    StartupProcess(Path jar, Path libDir, Path logDir) {
+        // Class Data Sharing needs jars only on the class path, and the archive is only used when it matches
+        this.classPath = jar + File.pathSeparator + libDir + File.separator + "*";
+        this.logDir = logDir;
+    }
+
+    long timeToHealthy(List<String> jvmOptions, String profiles, String mode, boolean gracefulStop)
+            throws IOException, InterruptedException {
+        Files.createDirectories(logDir);
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-cp", classPath,
+                Assignment1Application.class.getName(),
+                "--spring.profiles.active=" + profiles,
+                "--server.port=" + port,
+                "--trace.dump-dir="));
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logDir.resolve("startup-" + mode + "-" + port + ".log").toFile())
+                .start();
+        try {
+            awaitHealthy(process, port);
+            return Duration.ofNanos(System.nanoTime() - started).toMillis();
+        } finally {
+            if (gracefulStop) {
+                // A CDS archive is only written when the JVM exits normally
+                process.destroy();
+            } else {
+                process.destroyForcibly();
+            }
+            process.waitFor();
+        }
+    }
+
+    private void awaitHealthy(Process process, int port) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Instance exited during startup, see " + logDir);
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("Instance did not start within " + STARTUP_TIMEOUT_MS + " ms");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
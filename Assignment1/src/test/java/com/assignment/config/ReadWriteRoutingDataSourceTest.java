@@ -0,0 +1,117 @@
+package com.assignment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+
+// The primary and the replica are separate in-memory databases, so the URL of the connection a transaction runs on
+// tells which pool it came from
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-test-primary",
+        "replica.datasource.url=jdbc:h2:mem:routing-test-replica",
+        "trace.dump-dir="})
+class ReadWriteRoutingDataSourceTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @SpyBean
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Test
+    void readOnlyTransactionUsesReplicaPool() {
+        doReturn(true).when(replicaLagMonitor).isReplicaFresh();
+
+        assertEquals(replicaDataSource.getJdbcUrl(), connectionUrl(true));
+    }
+
+    @Test
+    void writeTransactionUsesPrimaryPool() {
+        doReturn(true).when(replicaLagMonitor).isReplicaFresh();
+
+        assertEquals(primaryDataSource.getJdbcUrl(), connectionUrl(false));
+    }
+
+    @Test
+    void readOnlyTransactionFallsBackToPrimaryWhenReplicaIsStale() {
+        doReturn(false).when(replicaLagMonitor).isReplicaFresh();
+
+        assertEquals(primaryDataSource.getJdbcUrl(), connectionUrl(true));
+    }
+
+    @Test
+    void separateReplicaIsStaleUntilChecked() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primaryDataSource, replicaDataSource, false, 5000);
+
+        assertFalse(monitor.isReplicaFresh());
+    }
+
+    // No responses are written in these tests, so only the heartbeat can tell a caught-up replica from a stalled one
+
+    @Test
+    void replicaIsFreshWhileHeartbeatIsReplicatedWithoutWrites() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primaryDataSource, replicaDataSource, false, 5000);
+        monitor.checkLag();
+        assertFalse(monitor.isReplicaFresh()); // Nothing has been replicated yet
+
+        replicateHeartbeat(new JdbcTemplate(primaryDataSource).queryForObject(
+                "SELECT beat FROM replica_heartbeat WHERE id = 1", Timestamp.class));
+        monitor.checkLag();
+
+        assertTrue(monitor.isReplicaFresh());
+    }
+
+    @Test
+    void stalledReplicaIsStaleWithoutWrites() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primaryDataSource, replicaDataSource, false, 5000);
+        // The replica stopped applying changes ten seconds ago, while the primary had nothing new to send
+        replicateHeartbeat(new Timestamp(System.currentTimeMillis() - 10_000));
+
+        monitor.checkLag();
+
+        assertFalse(monitor.isReplicaFresh());
+        assertTrue(monitor.getLagMs() >= 10_000);
+    }
+
+    // Stands in for replication by copying a heartbeat to the replica database
+    private void replicateHeartbeat(Timestamp beat) {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat TIMESTAMP(6) NOT NULL)");
+        replica.update("MERGE INTO replica_heartbeat (id, beat) KEY (id) VALUES (1, ?)", beat);
+    }
+
+    // Runs a statement in a transaction through the same DataSource JPA uses
+    private String connectionUrl(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL()));
+    }
+}